@@ -0,0 +1,7 @@
+package org.example.usersapi.audit;
+
+public enum AuditAction {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,26 @@
+package org.example.usersapi.audit;
+
+import java.time.Instant;
+
+public record AuditEvent(Instant timestamp, AuditAction action, String userId, String email) {
+
+    public String redactedEmail() {
+        if (email == null) {
+            return null;
+        }
+
+        int at = email.indexOf('@');
+        if (at <= 0) {
+            return "***";
+        }
+
+        return email.charAt(0) + "***" + email.substring(at);
+    }
+
+    public String format() {
+        return "action=" + action +
+                " userId=" + userId +
+                " email=" + redactedEmail() +
+                " at=" + timestamp;
+    }
+}
@@ -0,0 +1,141 @@
+package org.example.usersapi.audit;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.usersapi.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class UserAuditLogger {
+    private static final Logger AUDIT = LoggerFactory.getLogger("audit");
+
+    private final boolean enabled;
+    private final double sampleRate;
+    private final int batchSize;
+    private final BlockingQueue<AuditEvent> queue;
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writer;
+    private long reportedDropped;
+
+    public UserAuditLogger(@Value("${app.audit.enabled:true}") boolean enabled,
+                           @Value("${app.audit.sample-rate:1.0}") double sampleRate,
+                           @Value("${app.audit.queue-capacity:10000}") int queueCapacity,
+                           @Value("${app.audit.batch-size:256}") int batchSize) {
+        if (sampleRate < 0 || sampleRate > 1) {
+            throw new IllegalArgumentException("Audit sample rate must be between 0 and 1.");
+        }
+
+        this.enabled = enabled;
+        this.sampleRate = sampleRate;
+        this.batchSize = batchSize;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writer = new Thread(this::writeLoop, "user-audit-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        if (writer == null) {
+            flush();
+            return;
+        }
+
+        writer.interrupt();
+        writer.join(5000);
+        if (writer.isAlive()) {
+            log.warn("Audit writer did not stop in time, {} events may not be written", queue.size());
+        }
+    }
+
+    public void record(AuditAction action, User user) {
+        record(action, user.getId(), user.getEmail());
+    }
+
+    public void record(AuditAction action, String userId, String email) {
+        if (!enabled || !AUDIT.isInfoEnabled()) {
+            return;
+        }
+
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+
+        AuditEvent event = new AuditEvent(Instant.now(), action, userId, email);
+        if (!queue.offer(event)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    public int getPendingCount() {
+        return queue.size();
+    }
+
+    void flush() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        reportDropped();
+    }
+
+    private void writeLoop() {
+        List<AuditEvent> batch = new ArrayList<>(batchSize);
+        try {
+            while (running) {
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) {
+                    break;
+                }
+
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch.clear();
+                reportDropped();
+            }
+        } finally {
+            flush();
+        }
+    }
+
+    private void write(List<AuditEvent> batch) {
+        for (AuditEvent event : batch) {
+            AUDIT.info(event.format());
+        }
+    }
+
+    private synchronized void reportDropped() {
+        long total = dropped.get();
+        if (total > reportedDropped) {
+            log.warn("Audit queue full, dropped {} events ({} in total)", total - reportedDropped, total);
+            reportedDropped = total;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.usersapi.config;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.example.usersapi.model.User;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+    public static final FilterProvider ALL_USER_FIELDS = new SimpleFilterProvider()
+            .addFilter(User.FIELDS_FILTER, SimpleBeanPropertyFilter.serializeAll());
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer userFieldsFilterCustomizer() {
+        return builder -> builder.filters(ALL_USER_FIELDS);
+    }
+}
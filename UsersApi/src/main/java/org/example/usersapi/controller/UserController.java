@@ -1,17 +1,21 @@
 package org.example.usersapi.controller;
 
 import jakarta.validation.Valid;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
 import lombok.RequiredArgsConstructor;
 import org.example.usersapi.dto.UserDto;
+import org.example.usersapi.dto.UserLookupDto;
+import org.example.usersapi.dto.UserQueryDto;
 import org.example.usersapi.exception.UserNotFoundException;
-import org.example.usersapi.model.User;
+import org.example.usersapi.repository.QueryPlan;
 import org.example.usersapi.service.UserService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/users")
@@ -20,8 +24,10 @@ public class UserController {
     private final UserService userService;
 
     @PostMapping
-    public ResponseEntity<User> createUser(@RequestBody @Valid UserDto userDto) {
-        return new ResponseEntity<>(userService.createUser(userDto), HttpStatus.CREATED);
+    public ResponseEntity<MappingJacksonValue> createUser(@RequestBody @Valid UserDto userDto,
+                                                          @RequestParam(required = false) Set<String> fields) {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.createUser(userDto), filters), HttpStatus.CREATED);
     }
 
     @PatchMapping("/{id}")
@@ -33,9 +39,11 @@ public class UserController {
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable String id,
-                                           @RequestBody @Valid UserDto userDto) throws UserNotFoundException {
-        return new ResponseEntity<>(userService.updateUser(id, userDto), HttpStatus.OK);
+    public ResponseEntity<MappingJacksonValue> updateUser(@PathVariable String id,
+                                                          @RequestBody @Valid UserDto userDto,
+                                                          @RequestParam(required = false) Set<String> fields) throws UserNotFoundException {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.updateUser(id, userDto), filters), HttpStatus.OK);
     }
 
     @DeleteMapping("/{id}")
@@ -45,7 +53,36 @@ public class UserController {
     }
 
     @GetMapping("/filter")
-    public ResponseEntity<List<User>> getUsersByDateRange(LocalDate from, LocalDate to) {
-        return new ResponseEntity<>(userService.getUsersByDateRange(from, to), HttpStatus.OK);
+    public ResponseEntity<MappingJacksonValue> getUsersByDateRange(LocalDate from, LocalDate to,
+                                                                   @RequestParam(required = false) Set<String> fields) {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.getUsersByDateRange(from, to), filters), HttpStatus.OK);
+    }
+
+    @GetMapping("/birthdays")
+    public ResponseEntity<MappingJacksonValue> getUpcomingBirthdays(@RequestParam(required = false) LocalDate from,
+                                                                    @RequestParam(defaultValue = "7") int days,
+                                                                    @RequestParam(required = false) Set<String> fields) {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.getUpcomingBirthdays(from, days), filters), HttpStatus.OK);
+    }
+
+    @PostMapping("/lookup")
+    public ResponseEntity<MappingJacksonValue> lookupUsers(@RequestBody @Valid UserLookupDto lookupDto,
+                                                           @RequestParam(required = false) Set<String> fields) {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.lookupUsers(lookupDto.getIds()), filters), HttpStatus.OK);
+    }
+
+    @GetMapping("/query")
+    public ResponseEntity<MappingJacksonValue> queryUsers(@Valid UserQueryDto query,
+                                                          @RequestParam(required = false) Set<String> fields) {
+        FilterProvider filters = UserProjection.filters(fields);
+        return new ResponseEntity<>(UserProjection.of(userService.queryUsers(query), filters), HttpStatus.OK);
+    }
+
+    @GetMapping("/query/explain")
+    public ResponseEntity<QueryPlan> explainQuery(@Valid UserQueryDto query) {
+        return new ResponseEntity<>(userService.explainQuery(query), HttpStatus.OK);
     }
 }
@@ -0,0 +1,46 @@
+package org.example.usersapi.controller;
+
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.example.usersapi.config.JacksonConfig;
+import org.example.usersapi.model.User;
+import org.springframework.beans.BeanUtils;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.beans.PropertyDescriptor;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+final class UserProjection {
+    private static final Set<String> FIELDS = Arrays.stream(BeanUtils.getPropertyDescriptors(User.class))
+            .filter(property -> property.getReadMethod() != null)
+            .map(PropertyDescriptor::getName)
+            .filter(name -> !name.equals("class"))
+            .collect(Collectors.toUnmodifiableSet());
+
+    private UserProjection() {
+    }
+
+    static MappingJacksonValue of(Object body, FilterProvider filters) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(filters);
+        return value;
+    }
+
+    static FilterProvider filters(Set<String> fields) {
+        if (fields == null || fields.isEmpty()) {
+            return JacksonConfig.ALL_USER_FIELDS;
+        }
+
+        for (String field : fields) {
+            if (!FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Unknown field: " + field);
+            }
+        }
+
+        return new SimpleFilterProvider()
+                .addFilter(User.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields));
+    }
+}
@@ -0,0 +1,20 @@
+package org.example.usersapi.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class UserLookupDto {
+    @NotEmpty(message = "Ids must not be empty.")
+    @Size(max = 1000, message = "At most 1000 ids can be looked up at once.")
+    private List<@NotBlank(message = "Ids must not be blank.") String> ids;
+}
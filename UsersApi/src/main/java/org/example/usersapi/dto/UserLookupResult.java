@@ -0,0 +1,16 @@
+package org.example.usersapi.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import org.example.usersapi.model.User;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+@EqualsAndHashCode
+public class UserLookupResult {
+    private final List<User> users;
+    private final List<String> missing;
+}
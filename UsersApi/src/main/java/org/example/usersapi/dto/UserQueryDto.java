@@ -0,0 +1,35 @@
+package org.example.usersapi.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+@Builder
+@EqualsAndHashCode
+public class UserQueryDto {
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    private String firstName;
+    private String lastName;
+    private String firstNamePrefix;
+    private String lastNamePrefix;
+    private String emailDomain;
+    private Boolean hasPhone;
+
+    private String sort;
+
+    @Positive(message = "Limit must be positive.")
+    @Max(value = 1000, message = "Limit must not exceed 1000.")
+    private Integer limit;
+}
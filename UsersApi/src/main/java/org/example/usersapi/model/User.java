@@ -1,5 +1,6 @@
 package org.example.usersapi.model;
 
+import com.fasterxml.jackson.annotation.JsonFilter;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -12,7 +13,9 @@ import java.time.LocalDate;
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
+@JsonFilter(User.FIELDS_FILTER)
 public class User {
+    public static final String FIELDS_FILTER = "userFields";
 
     @UUID
     private String id;
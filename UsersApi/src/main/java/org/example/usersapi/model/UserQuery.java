@@ -0,0 +1,18 @@
+package org.example.usersapi.model;
+
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+@Builder
+public record UserQuery(LocalDate from,
+                        LocalDate to,
+                        String firstName,
+                        String lastName,
+                        String firstNamePrefix,
+                        String lastNamePrefix,
+                        String emailDomain,
+                        Boolean hasPhone,
+                        String sort,
+                        Integer limit) {
+}
@@ -0,0 +1,33 @@
+package org.example.usersapi.repository;
+
+import org.example.usersapi.model.User;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Locale;
+
+record IndexKeys(String firstName, String lastName, String emailDomain, LocalDate birthDate) {
+
+    static IndexKeys of(User user) {
+        return new IndexKeys(normalize(user.getFirstName()),
+                normalize(user.getLastName()),
+                emailDomain(user.getEmail()),
+                user.getBirthDate());
+    }
+
+    MonthDay birthday() {
+        return birthDate == null ? null : MonthDay.from(birthDate);
+    }
+
+    static String normalize(String value) {
+        return value == null ? null : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    static String emailDomain(String email) {
+        if (email == null) {
+            return null;
+        }
+
+        return normalize(email.substring(email.lastIndexOf('@') + 1));
+    }
+}
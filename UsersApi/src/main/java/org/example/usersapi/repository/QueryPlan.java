@@ -0,0 +1,13 @@
+package org.example.usersapi.repository;
+
+import java.util.List;
+
+public record QueryPlan(String access,
+                        String index,
+                        long estimatedRows,
+                        List<String> intersections,
+                        List<String> filters,
+                        String sort,
+                        boolean sortedByIndex,
+                        Integer limit) {
+}
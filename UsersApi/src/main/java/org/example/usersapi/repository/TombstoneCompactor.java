@@ -0,0 +1,64 @@
+package org.example.usersapi.repository;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Component
+@Slf4j
+public class TombstoneCompactor {
+    private final UserRepository userRepository;
+    private final long budgetNanos;
+    private final long reportIntervalNanos;
+    private final AtomicLong reclaimed = new AtomicLong();
+
+    private long lastReportNanos = System.nanoTime();
+    private long reportedReclaimed;
+
+    public TombstoneCompactor(UserRepository userRepository,
+                              @Value("${app.compaction.budget-ms:5}") long budgetMillis,
+                              @Value("${app.compaction.report-interval-ms:60000}") long reportIntervalMillis) {
+        this.userRepository = userRepository;
+        this.budgetNanos = TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.reportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(reportIntervalMillis);
+    }
+
+    @Scheduled(fixedDelayString = "${app.compaction.interval-ms:1000}")
+    public void compact() {
+        int count = userRepository.compactTombstones(budgetNanos);
+        if (count > 0) {
+            long total = reclaimed.addAndGet(count);
+            log.debug("Removed index entries of {} tombstones ({} in total, {} pending)",
+                    count, total, userRepository.getPendingTombstones());
+        }
+        reportIfDue();
+    }
+
+    public long getReclaimedCount() {
+        return reclaimed.get();
+    }
+
+    public int getPendingCount() {
+        return userRepository.getPendingTombstones();
+    }
+
+    private void reportIfDue() {
+        long now = System.nanoTime();
+        if (now - lastReportNanos < reportIntervalNanos) {
+            return;
+        }
+
+        long total = reclaimed.get();
+        int pending = userRepository.getPendingTombstones();
+        if (total > reportedReclaimed || pending > 0) {
+            log.info("Tombstone compaction removed index entries of {} tombstones since last report ({} in total, {} pending)",
+                    total - reportedReclaimed, total, pending);
+        }
+        lastReportNanos = now;
+        reportedReclaimed = total;
+    }
+}
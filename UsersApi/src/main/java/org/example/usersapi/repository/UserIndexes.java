@@ -0,0 +1,139 @@
+package org.example.usersapi.repository;
+
+import java.time.LocalDate;
+import java.time.MonthDay;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+final class UserIndexes {
+    private final NavigableMap<LocalDate, Set<String>> byBirthDate = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> byFirstName = new ConcurrentSkipListMap<>();
+    private final NavigableMap<String, Set<String>> byLastName = new ConcurrentSkipListMap<>();
+    private final Map<String, Set<String>> byEmailDomain = new ConcurrentHashMap<>();
+    private final Map<MonthDay, Set<String>> byBirthday = new ConcurrentHashMap<>();
+    private final Function<String, IndexKeys> liveKeys;
+
+    UserIndexes(Function<String, IndexKeys> liveKeys) {
+        this.liveKeys = liveKeys;
+    }
+
+    void add(String id, IndexKeys keys) {
+        add(byBirthDate, keys.birthDate(), id);
+        add(byFirstName, keys.firstName(), id);
+        add(byLastName, keys.lastName(), id);
+        add(byEmailDomain, keys.emailDomain(), id);
+        add(byBirthday, keys.birthday(), id);
+    }
+
+    void remove(String id, IndexKeys keys) {
+        remove(byBirthDate, keys.birthDate(), id);
+        remove(byFirstName, keys.firstName(), id);
+        remove(byLastName, keys.lastName(), id);
+        remove(byEmailDomain, keys.emailDomain(), id);
+        remove(byBirthday, keys.birthday(), id);
+    }
+
+    void removeStale(String id, IndexKeys stale, IndexKeys current) {
+        if (current == null) {
+            remove(id, stale);
+            return;
+        }
+
+        removeIfChanged(byBirthDate, stale.birthDate(), current.birthDate(), id);
+        removeIfChanged(byFirstName, stale.firstName(), current.firstName(), id);
+        removeIfChanged(byLastName, stale.lastName(), current.lastName(), id);
+        removeIfChanged(byEmailDomain, stale.emailDomain(), current.emailDomain(), id);
+        removeIfChanged(byBirthday, stale.birthday(), current.birthday(), id);
+    }
+
+    Stream<Bucket> birthDateRange(LocalDate from, LocalDate to, boolean descending) {
+        NavigableMap<LocalDate, Set<String>> range = byBirthDate;
+        if (from != null) {
+            range = range.tailMap(from, true);
+        }
+        if (to != null) {
+            range = range.headMap(to, true);
+        }
+
+        return buckets((descending ? range.descendingMap() : range).entrySet().stream(), IndexKeys::birthDate);
+    }
+
+    Set<String> firstName(String firstName) {
+        return byFirstName.getOrDefault(IndexKeys.normalize(firstName), Set.of());
+    }
+
+    Set<String> lastName(String lastName) {
+        return byLastName.getOrDefault(IndexKeys.normalize(lastName), Set.of());
+    }
+
+    Stream<Bucket> firstNamePrefix(String prefix) {
+        return buckets(prefix(byFirstName, IndexKeys.normalize(prefix)), IndexKeys::firstName);
+    }
+
+    Stream<Bucket> lastNamePrefix(String prefix) {
+        return buckets(prefix(byLastName, IndexKeys.normalize(prefix)), IndexKeys::lastName);
+    }
+
+    Set<String> emailDomain(String domain) {
+        return byEmailDomain.getOrDefault(IndexKeys.emailDomain(domain), Set.of());
+    }
+
+    Set<String> birthday(MonthDay birthday) {
+        return byBirthday.getOrDefault(birthday, Set.of());
+    }
+
+    private <K> Stream<Bucket> buckets(Stream<Map.Entry<K, Set<String>>> entries, Function<IndexKeys, K> keyOf) {
+        return entries.map(entry -> new Bucket(entry.getValue(), id -> {
+            IndexKeys keys = liveKeys.apply(id);
+            return keys != null && entry.getKey().equals(keyOf.apply(keys));
+        }));
+    }
+
+    private static Stream<Map.Entry<String, Set<String>>> prefix(NavigableMap<String, Set<String>> index, String prefix) {
+        return index.tailMap(prefix, true)
+                .entrySet()
+                .stream()
+                .takeWhile(entry -> entry.getKey().startsWith(prefix));
+    }
+
+    private static <K> void add(Map<K, Set<String>> index, K key, String id) {
+        if (key != null) {
+            index.computeIfAbsent(key, k -> ConcurrentHashMap.newKeySet()).add(id);
+        }
+    }
+
+    private static <K> void removeIfChanged(Map<K, Set<String>> index, K stale, K current, String id) {
+        if (!Objects.equals(stale, current)) {
+            remove(index, stale, id);
+        }
+    }
+
+    private static <K> void remove(Map<K, Set<String>> index, K key, String id) {
+        if (key == null) {
+            return;
+        }
+
+        index.computeIfPresent(key, (k, ids) -> {
+            ids.remove(id);
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    record Bucket(Set<String> ids, Predicate<String> isLive) {
+
+        static Bucket of(Set<String> ids) {
+            return new Bucket(ids, id -> true);
+        }
+
+        Stream<String> liveIds() {
+            return ids.stream().filter(isLive);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package org.example.usersapi.repository;
+
+import org.example.usersapi.model.User;
+import org.example.usersapi.model.UserQuery;
+
+import java.time.LocalDate;
+import java.util.*;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import static org.springframework.util.StringUtils.hasText;
+
+final class UserQueryPlanner {
+    private static final String BIRTH_DATE = "birthDate";
+
+    private static final Map<String, Comparator<User>> SORT_FIELDS = Map.of(
+            "firstName", Comparator.comparing(User::getFirstName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)),
+            "lastName", Comparator.comparing(User::getLastName, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)),
+            "email", Comparator.comparing(User::getEmail, Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)),
+            BIRTH_DATE, Comparator.comparing(User::getBirthDate, Comparator.nullsLast(Comparator.naturalOrder()))
+    );
+
+    private final UserIndexes indexes;
+
+    UserQueryPlanner(UserIndexes indexes) {
+        this.indexes = indexes;
+    }
+
+    Plan plan(UserQuery query, int totalRows) {
+        Sort sort = Sort.parse(query.sort());
+        List<AccessPath> paths = accessPaths(query, sort);
+
+        long best = totalRows;
+        AccessPath driver = null;
+        for (AccessPath path : paths) {
+            long estimate = path.estimate(best);
+            if (estimate < best || (driver == null && estimate == best && path.sortedByIndex())) {
+                best = estimate;
+                driver = path;
+            }
+        }
+
+        List<AccessPath> intersections = new ArrayList<>();
+        List<String> filters = new ArrayList<>();
+        for (AccessPath path : paths) {
+            if (path == driver) {
+                continue;
+            }
+            if (path.members() != null) {
+                intersections.add(path);
+            } else {
+                filters.add(path.name());
+            }
+        }
+        intersections.sort(Comparator.comparingInt(path -> path.members().size()));
+        if (query.hasPhone() != null) {
+            filters.add("hasPhone");
+        }
+
+        return new Plan(driver, best, intersections, filters, matcher(query), sort, query.limit());
+    }
+
+    private List<AccessPath> accessPaths(UserQuery query, Sort sort) {
+        List<AccessPath> paths = new ArrayList<>();
+
+        if (query.from() != null || query.to() != null) {
+            boolean ordered = sort != null && sort.field().equals(BIRTH_DATE);
+            boolean descending = ordered && sort.descending();
+            paths.add(AccessPath.range(BIRTH_DATE,
+                    () -> indexes.birthDateRange(query.from(), query.to(), descending),
+                    ordered));
+        }
+        if (hasText(query.firstName())) {
+            paths.add(AccessPath.exact("firstName", indexes.firstName(query.firstName())));
+        }
+        if (hasText(query.lastName())) {
+            paths.add(AccessPath.exact("lastName", indexes.lastName(query.lastName())));
+        }
+        if (hasText(query.emailDomain())) {
+            paths.add(AccessPath.exact("emailDomain", indexes.emailDomain(query.emailDomain())));
+        }
+        if (hasText(query.firstNamePrefix())) {
+            paths.add(AccessPath.range("firstNamePrefix",
+                    () -> indexes.firstNamePrefix(query.firstNamePrefix()), false));
+        }
+        if (hasText(query.lastNamePrefix())) {
+            paths.add(AccessPath.range("lastNamePrefix",
+                    () -> indexes.lastNamePrefix(query.lastNamePrefix()), false));
+        }
+
+        return paths;
+    }
+
+    private static Predicate<User> matcher(UserQuery query) {
+        Predicate<User> matcher = user -> true;
+
+        LocalDate from = query.from();
+        LocalDate to = query.to();
+        if (from != null) {
+            matcher = matcher.and(u -> u.getBirthDate() != null && !u.getBirthDate().isBefore(from));
+        }
+        if (to != null) {
+            matcher = matcher.and(u -> u.getBirthDate() != null && !u.getBirthDate().isAfter(to));
+        }
+        if (hasText(query.firstName())) {
+            String firstName = IndexKeys.normalize(query.firstName());
+            matcher = matcher.and(u -> firstName.equals(IndexKeys.normalize(u.getFirstName())));
+        }
+        if (hasText(query.lastName())) {
+            String lastName = IndexKeys.normalize(query.lastName());
+            matcher = matcher.and(u -> lastName.equals(IndexKeys.normalize(u.getLastName())));
+        }
+        if (hasText(query.firstNamePrefix())) {
+            String prefix = IndexKeys.normalize(query.firstNamePrefix());
+            matcher = matcher.and(u -> u.getFirstName() != null && IndexKeys.normalize(u.getFirstName()).startsWith(prefix));
+        }
+        if (hasText(query.lastNamePrefix())) {
+            String prefix = IndexKeys.normalize(query.lastNamePrefix());
+            matcher = matcher.and(u -> u.getLastName() != null && IndexKeys.normalize(u.getLastName()).startsWith(prefix));
+        }
+        if (hasText(query.emailDomain())) {
+            String domain = IndexKeys.emailDomain(query.emailDomain());
+            matcher = matcher.and(u -> domain.equals(IndexKeys.emailDomain(u.getEmail())));
+        }
+        if (query.hasPhone() != null) {
+            boolean hasPhone = query.hasPhone();
+            matcher = matcher.and(u -> hasText(u.getPhoneNumber()) == hasPhone);
+        }
+
+        return matcher;
+    }
+
+    record Plan(AccessPath driver,
+                long estimatedRows,
+                List<AccessPath> intersections,
+                List<String> filters,
+                Predicate<User> matcher,
+                Sort sort,
+                Integer limit) {
+
+        List<User> execute(Map<String, User> users) {
+            Stream<String> ids = driver == null ? users.keySet().stream() : driver.ids();
+            for (AccessPath intersection : intersections) {
+                Set<String> members = intersection.members();
+                ids = ids.filter(members::contains);
+            }
+
+            Stream<User> matches = ids.map(users::get)
+                    .filter(Objects::nonNull)
+                    .filter(matcher);
+
+            if (sort == null || sortedByIndex()) {
+                return limit == null ? matches.toList() : matches.limit(limit).toList();
+            }
+            if (limit == null) {
+                return matches.sorted(sort.comparator()).toList();
+            }
+
+            return top(matches, sort.comparator(), limit);
+        }
+
+        boolean sortedByIndex() {
+            return driver != null && driver.sortedByIndex();
+        }
+
+        QueryPlan explain() {
+            return new QueryPlan(driver == null ? "SCAN" : "INDEX",
+                    driver == null ? null : driver.name(),
+                    estimatedRows,
+                    intersections.stream().map(AccessPath::name).toList(),
+                    filters,
+                    sort == null ? null : sort.toString(),
+                    sortedByIndex(),
+                    limit);
+        }
+
+        private static List<User> top(Stream<User> users, Comparator<User> comparator, int limit) {
+            PriorityQueue<User> heap = new PriorityQueue<>(limit, comparator.reversed());
+            users.forEach(user -> {
+                if (heap.size() < limit) {
+                    heap.add(user);
+                } else if (comparator.compare(user, heap.peek()) < 0) {
+                    heap.poll();
+                    heap.add(user);
+                }
+            });
+
+            List<User> result = new ArrayList<>(heap);
+            result.sort(comparator);
+            return result;
+        }
+    }
+
+    record AccessPath(String name,
+                      Supplier<Stream<UserIndexes.Bucket>> buckets,
+                      Set<String> members,
+                      boolean sortedByIndex) {
+
+        static AccessPath exact(String name, Set<String> members) {
+            return new AccessPath(name, () -> Stream.of(UserIndexes.Bucket.of(members)), members, false);
+        }
+
+        static AccessPath range(String name, Supplier<Stream<UserIndexes.Bucket>> buckets, boolean sortedByIndex) {
+            return new AccessPath(name, buckets, null, sortedByIndex);
+        }
+
+        long estimate(long bound) {
+            if (members != null) {
+                return members.size();
+            }
+
+            long estimate = 0;
+            Iterator<UserIndexes.Bucket> iterator = buckets.get().iterator();
+            while (iterator.hasNext() && estimate <= bound) {
+                estimate += iterator.next().ids().size();
+            }
+            return estimate;
+        }
+
+        Stream<String> ids() {
+            return buckets.get().flatMap(UserIndexes.Bucket::liveIds);
+        }
+    }
+
+    record Sort(String field, boolean descending, Comparator<User> comparator) {
+
+        static Sort parse(String sort) {
+            if (!hasText(sort)) {
+                return null;
+            }
+
+            String[] parts = sort.split(",");
+            String field = parts[0].trim();
+            Comparator<User> comparator = SORT_FIELDS.get(field);
+            if (comparator == null || parts.length > 2) {
+                throw new IllegalArgumentException("Unsupported sort: " + sort);
+            }
+
+            boolean descending = false;
+            if (parts.length == 2) {
+                String direction = parts[1].trim();
+                if (direction.equalsIgnoreCase("desc")) {
+                    descending = true;
+                } else if (!direction.equalsIgnoreCase("asc")) {
+                    throw new IllegalArgumentException("Unsupported sort direction: " + direction);
+                }
+            }
+
+            return new Sort(field, descending, descending ? comparator.reversed() : comparator);
+        }
+
+        @Override
+        public String toString() {
+            return field + (descending ? ",desc" : ",asc");
+        }
+    }
+}
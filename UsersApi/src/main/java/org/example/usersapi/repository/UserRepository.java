@@ -1,40 +1,134 @@
 package org.example.usersapi.repository;
 
-import lombok.extern.slf4j.Slf4j;
 import org.example.usersapi.model.User;
+import org.example.usersapi.model.UserQuery;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
+import java.time.Month;
+import java.time.MonthDay;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Repository
-@Slf4j
 public class UserRepository {
-    private final List<User> users = new ArrayList<>();
+    private static final MonthDay LEAP_DAY = MonthDay.of(Month.FEBRUARY, 29);
+
+    private final Map<String, User> users = new ConcurrentHashMap<>();
+    private final Map<String, IndexKeys> indexedKeys = new ConcurrentHashMap<>();
+    private final UserIndexes indexes = new UserIndexes(indexedKeys::get);
+    private final UserQueryPlanner planner = new UserQueryPlanner(indexes);
+    private final Queue<Tombstone> tombstones = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pendingTombstones = new AtomicInteger();
+
+    public synchronized User save(User user) {
+        if (user.getId() == null) {
+            user.setId(UUID.randomUUID().toString());
+        }
+
+        IndexKeys keys = IndexKeys.of(user);
+        IndexKeys previous = indexedKeys.put(user.getId(), keys);
+        if (previous != null) {
+            indexes.remove(user.getId(), previous);
+        }
+        indexes.add(user.getId(), keys);
+        users.put(user.getId(), user);
 
-    public User save(User user) {
-        user.setId(UUID.randomUUID().toString());
-        users.add(user);
-        log.info("Saving user: {}", user);
         return user;
     }
 
     public Optional<User> findById(String id) {
-        return users.stream().filter(user -> user.getId().equals(id)).findFirst();
+        return Optional.ofNullable(users.get(id));
+    }
+
+    public List<User> findAllById(Collection<String> ids) {
+        List<User> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            User user = users.get(id);
+            if (user != null) {
+                found.add(user);
+            }
+        }
+        return found;
     }
 
     public boolean existsById(String id) {
-        return users.stream().anyMatch(user -> user.getId().equals(id));
+        return users.containsKey(id);
+    }
+
+    public synchronized boolean deleteById(String id) {
+        if (users.remove(id) == null) {
+            return false;
+        }
+
+        tombstones.add(new Tombstone(id, indexedKeys.remove(id)));
+        pendingTombstones.incrementAndGet();
+        return true;
+    }
+
+    public int compactTombstones(long budgetNanos) {
+        long deadline = System.nanoTime() + budgetNanos;
+        int reclaimed = 0;
+
+        Tombstone tombstone;
+        while (System.nanoTime() - deadline < 0 && (tombstone = tombstones.poll()) != null) {
+            pendingTombstones.decrementAndGet();
+            reclaim(tombstone);
+            reclaimed++;
+        }
+        return reclaimed;
     }
 
-    public boolean deleteById(String id) {
-        return users.removeIf(user -> user.getId().equals(id));
+    public int getPendingTombstones() {
+        return pendingTombstones.get();
     }
 
     public List<User> getUsersByDateRange(LocalDate from, LocalDate to) {
-        return users.stream()
+        return indexes.birthDateRange(from, to, false)
+                .flatMap(UserIndexes.Bucket::liveIds)
+                .map(users::get)
+                .filter(Objects::nonNull)
                 .filter(u -> !u.getBirthDate().isBefore(from))
                 .filter(u -> !u.getBirthDate().isAfter(to))
                 .toList();
     }
+
+    public List<User> getUpcomingBirthdays(LocalDate from, int days) {
+        List<User> result = new ArrayList<>();
+        for (int i = 0; i < days; i++) {
+            LocalDate date = from.plusDays(i);
+            addBirthdays(result, MonthDay.from(date));
+
+            if (date.getMonth() == Month.FEBRUARY && date.getDayOfMonth() == 28 && !date.isLeapYear()) {
+                addBirthdays(result, LEAP_DAY);
+            }
+        }
+        return result;
+    }
+
+    public List<User> query(UserQuery query) {
+        return planner.plan(query, users.size()).execute(users);
+    }
+
+    public QueryPlan explain(UserQuery query) {
+        return planner.plan(query, users.size()).explain();
+    }
+
+    private void addBirthdays(List<User> result, MonthDay birthday) {
+        for (String id : indexes.birthday(birthday)) {
+            User user = users.get(id);
+            if (user != null && user.getBirthDate() != null && MonthDay.from(user.getBirthDate()).equals(birthday)) {
+                result.add(user);
+            }
+        }
+    }
+
+    private synchronized void reclaim(Tombstone tombstone) {
+        indexes.removeStale(tombstone.id(), tombstone.keys(), indexedKeys.get(tombstone.id()));
+    }
+
+    private record Tombstone(String id, IndexKeys keys) {
+    }
 }
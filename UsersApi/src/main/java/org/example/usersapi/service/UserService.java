@@ -3,29 +3,38 @@ package org.example.usersapi.service;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.example.usersapi.audit.AuditAction;
+import org.example.usersapi.audit.UserAuditLogger;
 import org.example.usersapi.dto.UserDto;
+import org.example.usersapi.dto.UserLookupResult;
+import org.example.usersapi.dto.UserQueryDto;
 import org.example.usersapi.exception.UserNotFoundException;
 import org.example.usersapi.model.User;
+import org.example.usersapi.model.UserQuery;
+import org.example.usersapi.repository.QueryPlan;
 import org.example.usersapi.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
 import java.time.Period;
-import java.util.List;
+import java.util.*;
 
 @Service
 @RequiredArgsConstructor
 public class UserService {
     private final UserRepository userRepository;
     private final ObjectMapper objectMapper;
+    private final UserAuditLogger auditLogger;
 
     @Value("${app.min-user-age:18}")
     private int minUserAge;
 
     public User createUser(@Valid UserDto userDto) {
         if (isValid(userDto.getBirthDate())) {
-            return userRepository.save(userDtoToUser(userDto));
+            User user = userRepository.save(userDtoToUser(userDto));
+            auditLogger.record(AuditAction.CREATE, user);
+            return user;
         }
 
         throw new IllegalArgumentException("Invalid birth date");
@@ -38,6 +47,7 @@ public class UserService {
         user.setLastName(lastName);
 
         userRepository.save(user);
+        auditLogger.record(AuditAction.UPDATE, user);
     }
 
     public User updateUser(String id, UserDto userDto) throws UserNotFoundException {
@@ -49,6 +59,7 @@ public class UserService {
         updatedUser.setId(id);
 
         userRepository.save(updatedUser);
+        auditLogger.record(AuditAction.UPDATE, updatedUser);
 
         return updatedUser;
     }
@@ -59,6 +70,7 @@ public class UserService {
         }
 
         userRepository.deleteById(id);
+        auditLogger.record(AuditAction.DELETE, id, null);
     }
 
     public List<User> getUsersByDateRange(LocalDate from, LocalDate to) {
@@ -69,10 +81,64 @@ public class UserService {
         return userRepository.getUsersByDateRange(from, to);
     }
 
+    public List<User> getUpcomingBirthdays(LocalDate from, int days) {
+        if (days < 1 || days > 365) {
+            throw new IllegalArgumentException("'days' must be between 1 and 365.");
+        }
+
+        return userRepository.getUpcomingBirthdays(from == null ? LocalDate.now() : from, days);
+    }
+
+    public UserLookupResult lookupUsers(List<String> ids) {
+        Set<String> distinctIds = new LinkedHashSet<>(ids);
+        List<User> users = userRepository.findAllById(distinctIds);
+
+        Set<String> found = new HashSet<>();
+        users.forEach(user -> found.add(user.getId()));
+        List<String> missing = distinctIds.stream()
+                .filter(id -> !found.contains(id))
+                .toList();
+
+        return new UserLookupResult(users, missing);
+    }
+
+    public List<User> queryUsers(UserQueryDto query) {
+        validateDateRange(query);
+
+        return userRepository.query(toUserQuery(query));
+    }
+
+    public QueryPlan explainQuery(UserQueryDto query) {
+        validateDateRange(query);
+
+        return userRepository.explain(toUserQuery(query));
+    }
+
+    private void validateDateRange(UserQueryDto query) {
+        if (query.getFrom() != null && query.getTo() != null && query.getFrom().isAfter(query.getTo())) {
+            throw new IllegalArgumentException("'from' date range must be before 'to'.");
+        }
+    }
+
     private boolean isValid(LocalDate birthDate) {
         return Period.between(birthDate, LocalDate.now()).getYears() >= minUserAge;
     }
 
+    private UserQuery toUserQuery(UserQueryDto query) {
+        return UserQuery.builder()
+                .from(query.getFrom())
+                .to(query.getTo())
+                .firstName(query.getFirstName())
+                .lastName(query.getLastName())
+                .firstNamePrefix(query.getFirstNamePrefix())
+                .lastNamePrefix(query.getLastNamePrefix())
+                .emailDomain(query.getEmailDomain())
+                .hasPhone(query.getHasPhone())
+                .sort(query.getSort())
+                .limit(query.getLimit())
+                .build();
+    }
+
     private User userDtoToUser(UserDto userDto) {
         return objectMapper.convertValue(userDto, User.class);
     }
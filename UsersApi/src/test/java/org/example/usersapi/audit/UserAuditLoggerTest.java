@@ -0,0 +1,101 @@
+package org.example.usersapi.audit;
+
+import org.example.usersapi.data.UserDataGenerator;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserAuditLoggerTest {
+
+    @Test
+    void record_QueueFull_DropsAndCountsEvents() {
+        UserAuditLogger auditLogger = new UserAuditLogger(true, 1.0, 2, 10);
+
+        for (int i = 0; i < 5; i++) {
+            auditLogger.record(AuditAction.CREATE, UserDataGenerator.generateUser());
+        }
+
+        assertEquals(2, auditLogger.getPendingCount());
+        assertEquals(3, auditLogger.getDroppedCount());
+    }
+
+    @Test
+    void record_ZeroSampleRate_SkipsEvents() {
+        UserAuditLogger auditLogger = new UserAuditLogger(true, 0.0, 10, 10);
+
+        auditLogger.record(AuditAction.CREATE, UserDataGenerator.generateUser());
+
+        assertEquals(0, auditLogger.getPendingCount());
+        assertEquals(0, auditLogger.getDroppedCount());
+    }
+
+    @Test
+    void record_Disabled_SkipsEvents() {
+        UserAuditLogger auditLogger = new UserAuditLogger(false, 1.0, 10, 10);
+
+        auditLogger.record(AuditAction.DELETE, "c8aa6f36-22d5-4b9a-85a2-be1c88477583", null);
+
+        assertEquals(0, auditLogger.getPendingCount());
+    }
+
+    @Test
+    void flush_DrainsPendingEvents() {
+        UserAuditLogger auditLogger = new UserAuditLogger(true, 1.0, 10, 2);
+
+        for (int i = 0; i < 5; i++) {
+            auditLogger.record(AuditAction.UPDATE, UserDataGenerator.generateUser());
+        }
+        auditLogger.flush();
+
+        assertEquals(0, auditLogger.getPendingCount());
+    }
+
+    @Test
+    void start_BackgroundWriterDrainsQueue() throws InterruptedException {
+        UserAuditLogger auditLogger = new UserAuditLogger(true, 1.0, 100, 10);
+        auditLogger.start();
+
+        for (int i = 0; i < 25; i++) {
+            auditLogger.record(AuditAction.CREATE, UserDataGenerator.generateUser());
+        }
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (auditLogger.getPendingCount() > 0 && System.nanoTime() - deadline < 0) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, auditLogger.getPendingCount());
+
+        auditLogger.stop();
+    }
+
+    @Test
+    void stop_WritesRemainingEvents() throws InterruptedException {
+        UserAuditLogger auditLogger = new UserAuditLogger(true, 1.0, 100, 10);
+
+        for (int i = 0; i < 25; i++) {
+            auditLogger.record(AuditAction.UPDATE, UserDataGenerator.generateUser());
+        }
+        auditLogger.start();
+        auditLogger.stop();
+
+        assertEquals(0, auditLogger.getPendingCount());
+        assertEquals(0, auditLogger.getDroppedCount());
+    }
+
+    @Test
+    void constructor_InvalidSampleRate_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new UserAuditLogger(true, 1.5, 10, 10));
+    }
+
+    @Test
+    void format_RedactsEmail() {
+        AuditEvent event = new AuditEvent(Instant.EPOCH, AuditAction.CREATE,
+                "c8aa6f36-22d5-4b9a-85a2-be1c88477583", "john.doe@example.com");
+
+        assertEquals("j***@example.com", event.redactedEmail());
+        assertFalse(event.format().contains("john.doe"));
+    }
+}
@@ -3,8 +3,12 @@ package org.example.usersapi.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.usersapi.data.UserDataGenerator;
 import org.example.usersapi.dto.UserDto;
+import org.example.usersapi.dto.UserLookupDto;
+import org.example.usersapi.dto.UserLookupResult;
+import org.example.usersapi.dto.UserQueryDto;
 import org.example.usersapi.exception.UserNotFoundException;
 import org.example.usersapi.model.User;
+import org.example.usersapi.repository.QueryPlan;
 import org.example.usersapi.service.UserService;
 
 import org.junit.jupiter.api.BeforeEach;
@@ -23,8 +27,8 @@ import org.springframework.web.context.WebApplicationContext;
 import java.time.LocalDate;
 import java.util.List;
 
-import static org.mockito.Mockito.doThrow;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -183,4 +187,170 @@ public class UserControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
     }
+
+    @Test
+    public void queryUsers_success() throws Exception {
+        UserQueryDto query = UserQueryDto.builder()
+                .lastName("Doe")
+                .emailDomain("example.com")
+                .sort("birthDate,desc")
+                .limit(10)
+                .build();
+
+        when(userService.queryUsers(query)).thenReturn(List.of(UserDataGenerator.generateUser()));
+
+        mockMvc.perform(get("/users/query")
+                        .queryParam("lastName", "Doe")
+                        .queryParam("emailDomain", "example.com")
+                        .queryParam("sort", "birthDate,desc")
+                        .queryParam("limit", "10")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].lastName").value("Doe"));
+    }
+
+    @Test
+    public void queryUsers_invalidLimit() throws Exception {
+        mockMvc.perform(get("/users/query")
+                        .queryParam("limit", "0")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void explainQuery_success() throws Exception {
+        UserQueryDto query = UserQueryDto.builder().lastName("Doe").build();
+
+        when(userService.explainQuery(query))
+                .thenReturn(new QueryPlan("INDEX", "lastName", 1, List.of(), List.of(), null, false, null));
+
+        mockMvc.perform(get("/users/query/explain")
+                        .queryParam("lastName", "Doe")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.access").value("INDEX"))
+                .andExpect(jsonPath("$.index").value("lastName"));
+    }
+
+    @Test
+    public void getUsersByDateRange_withFields_serializesOnlyRequestedFields() throws Exception {
+        LocalDate from = LocalDate.now().minusYears(2);
+        LocalDate to = LocalDate.now().minusYears(1);
+
+        when(userService.getUsersByDateRange(from, to))
+                .thenReturn(List.of(UserDataGenerator.generateUser()));
+
+        mockMvc.perform(get("/users/filter")
+                        .queryParam("from", from.toString())
+                        .queryParam("to", to.toString())
+                        .queryParam("fields", "id,firstName,birthDate,phoneNumber")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("c8aa6f36-22d5-4b9a-85a2-be1c88477583"))
+                .andExpect(jsonPath("$[0].firstName").value("John"))
+                .andExpect(jsonPath("$[0].birthDate").value("2000-11-03"))
+                .andExpect(jsonPath("$[0].phoneNumber").value("12345678"))
+                .andExpect(jsonPath("$[0].lastName").doesNotExist())
+                .andExpect(jsonPath("$[0].address").doesNotExist());
+    }
+
+    @Test
+    public void createUser_unknownField() throws Exception {
+        UserDto userDto = UserDataGenerator.generateUserDto();
+
+        when(userService.createUser(userDto)).thenReturn(UserDataGenerator.generateUser());
+
+        mockMvc.perform(post("/users")
+                        .queryParam("fields", "id,password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto))
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).createUser(any());
+    }
+
+    @Test
+    public void updateUser_unknownField() throws Exception {
+        UserDto userDto = UserDataGenerator.generateUserDto();
+
+        mockMvc.perform(put("/users/c8aa6f36-22d5-4b9a-85a2-be1c88477583")
+                        .queryParam("fields", "id,password")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(userDto))
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).updateUser(any(), any());
+    }
+
+    @Test
+    public void lookupUsers_success() throws Exception {
+        String id = "c8aa6f36-22d5-4b9a-85a2-be1c88477583";
+        List<String> ids = List.of(id, "missing-id");
+
+        when(userService.lookupUsers(ids))
+                .thenReturn(new UserLookupResult(List.of(UserDataGenerator.generateUser()), List.of("missing-id")));
+
+        mockMvc.perform(post("/users/lookup")
+                        .queryParam("fields", "id,lastName")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserLookupDto(ids)))
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.users.length()").value(1))
+                .andExpect(jsonPath("$.users[0].id").value(id))
+                .andExpect(jsonPath("$.users[0].lastName").value("Doe"))
+                .andExpect(jsonPath("$.users[0].email").doesNotExist())
+                .andExpect(jsonPath("$.missing[0]").value("missing-id"));
+    }
+
+    @Test
+    public void lookupUsers_emptyIds() throws Exception {
+        mockMvc.perform(post("/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new UserLookupDto(List.of())))
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    public void lookupUsers_nullId() throws Exception {
+        mockMvc.perform(post("/users/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"ids\":[\"c8aa6f36-22d5-4b9a-85a2-be1c88477583\",null]}")
+                )
+                .andDo(print())
+                .andExpect(status().isBadRequest());
+
+        verify(userService, never()).lookupUsers(any());
+    }
+
+    @Test
+    public void getUpcomingBirthdays_success() throws Exception {
+        LocalDate from = LocalDate.of(2024, 11, 1);
+
+        when(userService.getUpcomingBirthdays(from, 5))
+                .thenReturn(List.of(UserDataGenerator.generateUser()));
+
+        mockMvc.perform(get("/users/birthdays")
+                        .queryParam("from", from.toString())
+                        .queryParam("days", "5")
+                        .queryParam("fields", "id,birthDate")
+                )
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].birthDate").value("2000-11-03"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
 }
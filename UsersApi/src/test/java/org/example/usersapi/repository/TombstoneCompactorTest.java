@@ -0,0 +1,53 @@
+package org.example.usersapi.repository;
+
+import org.example.usersapi.model.User;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@ExtendWith(OutputCaptureExtension.class)
+public class TombstoneCompactorTest {
+    private final UserRepository userRepository = new UserRepository();
+
+    @Test
+    void compact_ReclaimsTombstonesAndCountsThem() {
+        TombstoneCompactor compactor = new TombstoneCompactor(userRepository, 1000, 60_000);
+        deleteUsers(3);
+
+        compactor.compact();
+
+        assertEquals(3, compactor.getReclaimedCount());
+        assertEquals(0, compactor.getPendingCount());
+    }
+
+    @Test
+    void compact_ReportIntervalElapsed_LogsSummary(CapturedOutput output) {
+        TombstoneCompactor compactor = new TombstoneCompactor(userRepository, 1000, 0);
+        deleteUsers(2);
+
+        compactor.compact();
+
+        assertTrue(output.getOut().contains("removed index entries of 2 tombstones since last report (2 in total, 0 pending)"));
+    }
+
+    @Test
+    void compact_NothingToReport_LogsNothing(CapturedOutput output) {
+        TombstoneCompactor compactor = new TombstoneCompactor(userRepository, 1000, 0);
+
+        compactor.compact();
+
+        assertFalse(output.getOut().contains("Tombstone compaction"));
+    }
+
+    private void deleteUsers(int count) {
+        for (int i = 0; i < count; i++) {
+            User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+            userRepository.deleteById(user.getId());
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.usersapi.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class UserIndexesTest {
+    private static final String ID = "c8aa6f36-22d5-4b9a-85a2-be1c88477583";
+
+    private final UserIndexes indexes = new UserIndexes(id -> null);
+
+    @Test
+    void removeStale_SameKeys_KeepsLiveEntriesInPlace() {
+        IndexKeys keys = new IndexKeys("john", "doe", "example.com", LocalDate.of(1990, 1, 1));
+        indexes.add(ID, keys);
+        Set<String> lastNameBucket = indexes.lastName("Doe");
+
+        indexes.removeStale(ID, keys, keys);
+
+        assertSame(lastNameBucket, indexes.lastName("Doe"));
+        assertTrue(lastNameBucket.contains(ID));
+        assertTrue(indexes.firstName("John").contains(ID));
+        assertTrue(indexes.emailDomain("example.com").contains(ID));
+    }
+
+    @Test
+    void removeStale_ChangedKey_RemovesOnlyStaleEntry() {
+        IndexKeys stale = new IndexKeys("john", "doe", "example.com", LocalDate.of(1990, 1, 1));
+        IndexKeys current = new IndexKeys("john", "dorsey", "example.com", LocalDate.of(1990, 1, 1));
+        indexes.add(ID, stale);
+        indexes.add(ID, current);
+
+        indexes.removeStale(ID, stale, current);
+
+        assertTrue(indexes.lastName("Doe").isEmpty());
+        assertTrue(indexes.lastName("Dorsey").contains(ID));
+        assertTrue(indexes.firstName("John").contains(ID));
+    }
+
+    @Test
+    void removeStale_DeletedId_RemovesAllEntries() {
+        IndexKeys keys = new IndexKeys("john", "doe", "example.com", LocalDate.of(1990, 1, 1));
+        indexes.add(ID, keys);
+
+        indexes.removeStale(ID, keys, null);
+
+        assertTrue(indexes.lastName("Doe").isEmpty());
+        assertTrue(indexes.firstName("John").isEmpty());
+        assertTrue(indexes.emailDomain("example.com").isEmpty());
+    }
+}
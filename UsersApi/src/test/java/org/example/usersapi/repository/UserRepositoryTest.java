@@ -1,6 +1,7 @@
 package org.example.usersapi.repository;
 
 import org.example.usersapi.model.User;
+import org.example.usersapi.model.UserQuery;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -45,6 +46,14 @@ public class UserRepositoryTest {
         assertTrue(foundUser.isEmpty());
     }
 
+    @Test
+    void findAllById_ReturnsOnlyExistingUsers() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+
+        List<User> users = userRepository.findAllById(List.of("nonexistent-id", user.getId()));
+        assertEquals(List.of(user), users);
+    }
+
     @Test
     void existsById_UserExists_ReturnsTrue() {
         User user = new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890");
@@ -67,6 +76,59 @@ public class UserRepositoryTest {
         assertFalse(userRepository.existsById(savedUser.getId()));
     }
 
+    @Test
+    void deleteById_LeavesTombstoneUntilCompaction() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+
+        assertTrue(userRepository.deleteById(user.getId()));
+        assertEquals(1, userRepository.getPendingTombstones());
+        assertTrue(userRepository.query(UserQuery.builder().lastName("Doe").build()).isEmpty());
+
+        assertEquals(1, userRepository.compactTombstones(Long.MAX_VALUE));
+        assertEquals(0, userRepository.getPendingTombstones());
+        assertEquals(0, userRepository.explain(UserQuery.builder().lastName("Doe").build()).estimatedRows());
+    }
+
+    @Test
+    void compactTombstones_UserSavedAgain_KeepsLiveIndexEntries() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+        userRepository.deleteById(user.getId());
+        userRepository.save(new User(user.getId(), "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+
+        userRepository.compactTombstones(Long.MAX_VALUE);
+
+        assertEquals(1, userRepository.query(UserQuery.builder().lastName("Doe").build()).size());
+        assertEquals(1, userRepository.getUsersByDateRange(LocalDate.of(1990, 1, 1), LocalDate.of(1990, 1, 1)).size());
+    }
+
+    @Test
+    void query_UserSavedAgainWithChangedKeysBeforeCompaction_ReturnsUserOnce() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+        userRepository.deleteById(user.getId());
+        userRepository.save(new User(user.getId(), "John", "Dorsey", "john.doe@example.com", LocalDate.of(1995, 6, 1), "123 Street", "1234567890"));
+
+        assertEquals(1, userRepository.getPendingTombstones());
+        assertEquals(1, userRepository.getUsersByDateRange(LocalDate.of(1989, 1, 1), LocalDate.of(2000, 1, 1)).size());
+        assertEquals(1, userRepository.query(UserQuery.builder().lastNamePrefix("do").build()).size());
+
+        List<User> users = userRepository.query(UserQuery.builder()
+                .from(LocalDate.of(1989, 1, 1))
+                .to(LocalDate.of(2000, 1, 1))
+                .sort("birthDate")
+                .build());
+        assertEquals(1, users.size());
+        assertEquals(LocalDate.of(1995, 6, 1), users.get(0).getBirthDate());
+    }
+
+    @Test
+    void compactTombstones_NoBudget_ReclaimsNothing() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+        userRepository.deleteById(user.getId());
+
+        assertEquals(0, userRepository.compactTombstones(0));
+        assertEquals(1, userRepository.getPendingTombstones());
+    }
+
     @Test
     void deleteById_UserDoesNotExist_ReturnsFalse() {
         assertFalse(userRepository.deleteById("nonexistent-id"));
@@ -90,4 +152,122 @@ public class UserRepositoryTest {
         assertTrue(users.isEmpty());
     }
 
-}
\ No newline at end of file
+    @Test
+    void saveUser_ExistingId_ReplacesUserAndIndexes() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+        userRepository.save(new User(user.getId(), "John", "Smith", "john.smith@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+
+        assertTrue(userRepository.query(UserQuery.builder().lastName("Doe").build()).isEmpty());
+        List<User> users = userRepository.query(UserQuery.builder().lastName("Smith").build());
+        assertEquals(1, users.size());
+        assertEquals(user.getId(), users.get(0).getId());
+    }
+
+    @Test
+    void getUpcomingBirthdays_YearWrapAround_ReturnsUsersInDateOrder() {
+        userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 2), null, null));
+        userRepository.save(new User(null, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 12, 30), null, null));
+        userRepository.save(new User(null, "Mary", "Smith", "mary@example.com", LocalDate.of(1985, 1, 10), null, null));
+
+        List<User> users = userRepository.getUpcomingBirthdays(LocalDate.of(2023, 12, 28), 7);
+
+        assertEquals(List.of("Jane", "John"), users.stream().map(User::getFirstName).toList());
+    }
+
+    @Test
+    void getUpcomingBirthdays_LeapDay_ObservedOnFebruary28InCommonYears() {
+        userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1996, 2, 29), null, null));
+
+        assertEquals(1, userRepository.getUpcomingBirthdays(LocalDate.of(2023, 2, 28), 1).size());
+        assertTrue(userRepository.getUpcomingBirthdays(LocalDate.of(2023, 3, 1), 1).isEmpty());
+        assertTrue(userRepository.getUpcomingBirthdays(LocalDate.of(2024, 2, 28), 1).isEmpty());
+        assertEquals(1, userRepository.getUpcomingBirthdays(LocalDate.of(2024, 2, 29), 1).size());
+    }
+
+    @Test
+    void getUpcomingBirthdays_DeletedUser_NotReturned() {
+        User user = userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 5, 5), null, null));
+        userRepository.deleteById(user.getId());
+
+        assertTrue(userRepository.getUpcomingBirthdays(LocalDate.of(2024, 5, 1), 10).isEmpty());
+    }
+
+    @Test
+    void query_CombinedPredicates_ReturnsMatchingUsers() {
+        saveQueryUsers();
+
+        List<User> users = userRepository.query(UserQuery.builder()
+                .lastName("doe")
+                .emailDomain("@Example.com")
+                .hasPhone(true)
+                .build());
+
+        assertEquals(1, users.size());
+        assertEquals("John", users.get(0).getFirstName());
+    }
+
+    @Test
+    void query_PrefixAndDateRange_ReturnsSortedAndLimitedUsers() {
+        saveQueryUsers();
+
+        List<User> users = userRepository.query(UserQuery.builder()
+                .lastNamePrefix("do")
+                .from(LocalDate.of(1980, 1, 1))
+                .to(LocalDate.of(2000, 1, 1))
+                .sort("birthDate,desc")
+                .limit(2)
+                .build());
+
+        assertEquals(List.of("Jane", "John"), users.stream().map(User::getFirstName).toList());
+    }
+
+    @Test
+    void query_SortWithoutIndex_ReturnsTopUsers() {
+        saveQueryUsers();
+
+        List<User> users = userRepository.query(UserQuery.builder().sort("firstName").limit(2).build());
+
+        assertEquals(List.of("Jack", "Jane"), users.stream().map(User::getFirstName).toList());
+    }
+
+    @Test
+    void query_UnsupportedSort_ThrowsException() {
+        assertThrows(IllegalArgumentException.class,
+                () -> userRepository.query(UserQuery.builder().sort("address").build()));
+    }
+
+    @Test
+    void explain_SelectiveIndex_UsesIndexAndIntersects() {
+        saveQueryUsers();
+
+        QueryPlan plan = userRepository.explain(UserQuery.builder()
+                .emailDomain("example.com")
+                .lastName("Dorsey")
+                .from(LocalDate.of(1980, 1, 1))
+                .build());
+
+        assertEquals("INDEX", plan.access());
+        assertEquals("lastName", plan.index());
+        assertEquals(1, plan.estimatedRows());
+        assertEquals(List.of("emailDomain"), plan.intersections());
+        assertEquals(List.of("birthDate"), plan.filters());
+    }
+
+    @Test
+    void explain_NoIndexablePredicate_FallsBackToScan() {
+        saveQueryUsers();
+
+        QueryPlan plan = userRepository.explain(UserQuery.builder().hasPhone(false).build());
+
+        assertEquals("SCAN", plan.access());
+        assertEquals(4, plan.estimatedRows());
+        assertEquals(List.of("hasPhone"), plan.filters());
+    }
+
+    private void saveQueryUsers() {
+        userRepository.save(new User(null, "John", "Doe", "john.doe@example.com", LocalDate.of(1990, 1, 1), "123 Street", "1234567890"));
+        userRepository.save(new User(null, "Jane", "Doe", "jane.doe@example.com", LocalDate.of(1995, 1, 1), "456 Lane", null));
+        userRepository.save(new User(null, "Jack", "Dorsey", "jack@example.org", LocalDate.of(1976, 11, 19), null, "5550000"));
+        userRepository.save(new User(null, "Mary", "Smith", "mary@example.com", LocalDate.of(1985, 6, 15), null, null));
+    }
+}
@@ -1,10 +1,15 @@
 package org.example.usersapi.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.usersapi.audit.AuditAction;
+import org.example.usersapi.audit.UserAuditLogger;
 import org.example.usersapi.data.UserDataGenerator;
 import org.example.usersapi.dto.UserDto;
+import org.example.usersapi.dto.UserLookupResult;
+import org.example.usersapi.dto.UserQueryDto;
 import org.example.usersapi.exception.UserNotFoundException;
 import org.example.usersapi.model.User;
+import org.example.usersapi.model.UserQuery;
 import org.example.usersapi.repository.UserRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -17,6 +22,7 @@ import org.springframework.test.util.ReflectionTestUtils;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -30,6 +36,9 @@ public class UserServiceTest {
     @Mock
     private ObjectMapper objectMapper;
 
+    @Mock
+    private UserAuditLogger auditLogger;
+
     @InjectMocks
     private UserService userService;
 
@@ -52,6 +61,7 @@ public class UserServiceTest {
         User result = userService.createUser(userDto);
         assertEquals(expectedUser, result);
         verify(userRepository, times(1)).save(any(User.class));
+        verify(auditLogger).record(AuditAction.CREATE, expectedUser);
     }
 
     @Test
@@ -129,6 +139,7 @@ public class UserServiceTest {
         userService.deleteUser(id);
 
         verify(userRepository).deleteById(id);
+        verify(auditLogger).record(AuditAction.DELETE, id, null);
     }
 
     @Test
@@ -168,4 +179,61 @@ public class UserServiceTest {
 
         assertEquals("'from' date range must be before 'to'.", exception.getMessage());
     }
+
+    @Test
+    void getUpcomingBirthdays_ValidRange_ReturnsUsers() {
+        LocalDate from = LocalDate.of(2024, 11, 1);
+        List<User> expectedUsers = List.of(expectedUser);
+
+        when(userRepository.getUpcomingBirthdays(from, 7)).thenReturn(expectedUsers);
+
+        assertEquals(expectedUsers, userService.getUpcomingBirthdays(from, 7));
+    }
+
+    @Test
+    void getUpcomingBirthdays_InvalidDays_ThrowsException() {
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            userService.getUpcomingBirthdays(LocalDate.of(2024, 11, 1), 366);
+        });
+
+        assertEquals("'days' must be between 1 and 365.", exception.getMessage());
+    }
+
+    @Test
+    void lookupUsers_ReturnsFoundAndMissingIds() {
+        List<String> ids = List.of(expectedUser.getId(), "missing-id", expectedUser.getId());
+
+        when(userRepository.findAllById(Set.of(expectedUser.getId(), "missing-id"))).thenReturn(List.of(expectedUser));
+
+        UserLookupResult result = userService.lookupUsers(ids);
+
+        assertEquals(List.of(expectedUser), result.getUsers());
+        assertEquals(List.of("missing-id"), result.getMissing());
+        verify(userRepository, times(1)).findAllById(any());
+    }
+
+    @Test
+    void queryUsers_ValidQuery_ReturnsUsers() {
+        UserQueryDto query = UserQueryDto.builder().lastName("Doe").limit(10).build();
+        List<User> expectedUsers = List.of(expectedUser);
+
+        when(userRepository.query(UserQuery.builder().lastName("Doe").limit(10).build())).thenReturn(expectedUsers);
+
+        assertEquals(expectedUsers, userService.queryUsers(query));
+    }
+
+    @Test
+    void queryUsers_InvalidRange_ThrowsException() {
+        UserQueryDto query = UserQueryDto.builder()
+                .from(LocalDate.of(2020, 12, 31))
+                .to(LocalDate.of(2020, 1, 1))
+                .build();
+
+        Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            userService.queryUsers(query);
+        });
+
+        assertEquals("'from' date range must be before 'to'.", exception.getMessage());
+        verifyNoInteractions(userRepository);
+    }
 }